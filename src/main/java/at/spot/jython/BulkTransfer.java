@@ -0,0 +1,14 @@
+package at.spot.jython;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * Marks a {@link PythonMethod} whose return value is converted using the
+ * {@link PyBulkConverter}. The python object graph is converted straight into
+ * the declared (generic) return type of the method, without wrapping every
+ * single python object.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+public @interface BulkTransfer {
+}
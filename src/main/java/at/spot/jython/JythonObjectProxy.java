@@ -1,22 +1,31 @@
 package at.spot.jython;
 
+import java.lang.reflect.Type;
+
 import org.python.core.PyInstance;
 import org.python.core.PyObject;
 
 /**
  * This proxy class can be subclasses and implement an interface that conforms
  * to a given python object.
+ *
+ * The wrapped python object is released when the proxy is closed. If the
+ * proxied interface extends {@link AutoCloseable}, the proxy can be used in a
+ * try-with-resources statement. Proxies that are never closed are released by
+ * the {@link PyObjectTracker} once they become unreachable.
  */
-public abstract class JythonObjectProxy {
+public abstract class JythonObjectProxy implements AutoCloseable {
 
-	protected PyInstance pyObject;
+	protected volatile PyInstance pyObject;
+	protected final PyObjectTracker.TrackedObject trackedObject;
 
 	public JythonObjectProxy(final PyInstance pyObject) {
 		this.pyObject = pyObject;
+		this.trackedObject = PyObjectTracker.getInstance().track(this, pyObject);
 	}
 
 	public Object invokeMethod(final String name, final Object... args) {
-		final PyObject ret = pyObject.invoke(name, PyFactory.getInstance().convertArgs2Python(args));
+		final PyObject ret = getPyObject().invoke(name, PyFactory.getInstance().convertArgs2Python(args));
 
 		return PyFactory.getInstance().convertArgs2Java(ret);
 	}
@@ -25,7 +34,47 @@ public abstract class JythonObjectProxy {
 		return invokeMethod(name, returnType, args);
 	}
 
+	/**
+	 * Invokes the python method and converts the returned python object graph
+	 * using the {@link PyBulkConverter}.
+	 *
+	 * @param returnType
+	 *            the (possibly generic) java type the return value is converted
+	 *            into
+	 */
+	public Object invokeBulkTransferMethod(final String name, final Type returnType, final Object... args) {
+		final PyObject ret = getPyObject().invoke(name, PyFactory.getInstance().convertArgs2Python(args));
+
+		return PyBulkConverter.getInstance().convert(ret, returnType);
+	}
+
+	/**
+	 * Returns the wrapped python object.
+	 *
+	 * @throws IllegalStateException
+	 *             if the proxy has already been closed
+	 */
 	public PyInstance getPyObject() {
-		return this.pyObject;
+		final PyInstance pyObject = this.pyObject;
+
+		if (pyObject == null) {
+			throw new IllegalStateException("The python object proxy has already been closed");
+		}
+
+		return pyObject;
+	}
+
+	public boolean isClosed() {
+		return this.pyObject == null;
+	}
+
+	/**
+	 * Releases the wrapped python object. Calling this method more than once has
+	 * no effect.
+	 */
+	@Override
+	public void close() {
+		this.pyObject = null;
+		trackedObject.release();
 	}
 }
@@ -0,0 +1,587 @@
+package at.spot.jython;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.LinkedBlockingDeque;
+
+import org.python.core.AbstractDict;
+import org.python.core.Py;
+import org.python.core.PyBoolean;
+import org.python.core.PyDictionary;
+import org.python.core.PyFloat;
+import org.python.core.PyInteger;
+import org.python.core.PyLong;
+import org.python.core.PyObject;
+import org.python.core.PySequenceList;
+import org.python.core.PyString;
+import org.python.core.PyStringMap;
+
+/**
+ * Converts python object graphs (lists, tuples, dicts, objects and primitives)
+ * to java in bulk.
+ *
+ * The python objects are read directly and converted straight into the given
+ * java type, no intermediate java objects are created. Which java objects are
+ * created is defined by that type only: python dicts and objects can be
+ * converted into maps or POJOs (matched by field name), python lists into
+ * collections, object arrays or primitive arrays (columns).
+ */
+public class PyBulkConverter {
+	protected static final PyBulkConverter INSTANCE = new PyBulkConverter();
+	protected static final Set<Class<?>> VALUE_TYPES = new HashSet<>(Arrays.asList(Object.class, String.class,
+			Integer.class, Long.class, Double.class, Boolean.class, Float.class, Short.class, Byte.class,
+			Character.class));
+
+	protected final Map<Class<?>, ObjectSchema> schemas = new ConcurrentHashMap<>();
+
+	private PyBulkConverter() {
+	}
+
+	public static PyBulkConverter getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Converts the given python object into an instance of the given java type.
+	 *
+	 * @param pyObject
+	 *            the python object to convert
+	 * @param type
+	 *            the (possibly generic) java type to convert into
+	 * @return the converted java object
+	 */
+	public Object convert(final PyObject pyObject, final Type type) {
+		final Class<?> rawType = getRawType(type);
+
+		if (pyObject == null || pyObject == Py.None) {
+			if (rawType.isPrimitive()) {
+				throw new IllegalArgumentException(
+						String.format("Cannot convert None to primitive type %s", rawType.getName()));
+			}
+
+			return null;
+		}
+
+		if (rawType == Object.class) {
+			return convertValue(pyObject);
+		} else if (rawType == String.class) {
+			return toString(pyObject);
+		} else if (rawType == int.class || rawType == Integer.class) {
+			return toInt(pyObject);
+		} else if (rawType == long.class || rawType == Long.class) {
+			return toLong(pyObject);
+		} else if (rawType == double.class || rawType == Double.class) {
+			return toDouble(pyObject);
+		} else if (rawType == boolean.class || rawType == Boolean.class) {
+			return toBoolean(pyObject);
+		} else if (rawType == float.class || rawType == Float.class) {
+			return (float) toDouble(pyObject);
+		} else if (rawType == short.class || rawType == Short.class) {
+			return toShort(pyObject);
+		} else if (rawType == byte.class || rawType == Byte.class) {
+			return toByte(pyObject);
+		} else if (rawType == char.class || rawType == Character.class) {
+			return toChar(pyObject);
+		} else if (rawType.isEnum()) {
+			return toEnum(pyObject, rawType);
+		} else if (rawType.isArray()) {
+			return toArray(pyObject, getComponentType(type));
+		} else if (Collection.class.isAssignableFrom(rawType)) {
+			return toCollection(pyObject, rawType, getTypeArgument(type, 0));
+		} else if (Map.class.isAssignableFrom(rawType)) {
+			return toMap(pyObject, rawType, getTypeArgument(type, 0), getTypeArgument(type, 1));
+		} else {
+			return toObject(pyObject, rawType);
+		}
+	}
+
+	/**
+	 * Converts a value without a target type, the natural java type of the
+	 * python object is used.
+	 */
+	protected Object convertValue(final PyObject pyObject) {
+		if (pyObject == null || pyObject == Py.None) {
+			return null;
+		} else if (pyObject instanceof PyBoolean) {
+			return ((PyBoolean) pyObject).getValue() != 0;
+		} else if (pyObject instanceof PyInteger) {
+			return ((PyInteger) pyObject).getValue();
+		} else if (pyObject instanceof PyLong) {
+			return toLong(pyObject);
+		} else if (pyObject instanceof PyFloat) {
+			return ((PyFloat) pyObject).getValue();
+		} else if (pyObject instanceof PyString) {
+			return ((PyString) pyObject).getString();
+		} else if (pyObject instanceof PySequenceList) {
+			return toCollection(pyObject, List.class, Object.class);
+		} else {
+			return toMap(pyObject, Map.class, Object.class, Object.class);
+		}
+	}
+
+	protected String toString(final PyObject pyObject) {
+		if (!(pyObject instanceof PyString)) {
+			throw new IllegalArgumentException(
+					String.format("Expected a string but got %s", pyObject.getType().fastGetName()));
+		}
+
+		return ((PyString) pyObject).getString();
+	}
+
+	protected long toLong(final PyObject pyObject) {
+		if (pyObject instanceof PyInteger) {
+			// also covers PyBoolean
+			return ((PyInteger) pyObject).getValue();
+		} else if (pyObject instanceof PyLong) {
+			try {
+				return ((PyLong) pyObject).getValue().longValueExact();
+			} catch (final ArithmeticException e) {
+				throw new IllegalArgumentException(
+						String.format("Value %s is out of range for type long", ((PyLong) pyObject).getValue()), e);
+			}
+		} else {
+			throw new IllegalArgumentException(
+					String.format("Expected an integer but got %s", pyObject.getType().fastGetName()));
+		}
+	}
+
+	protected int toInt(final PyObject pyObject) {
+		final long value = toLong(pyObject);
+
+		if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException(String.format("Value %s is out of range for type int", value));
+		}
+
+		return (int) value;
+	}
+
+	protected short toShort(final PyObject pyObject) {
+		final long value = toLong(pyObject);
+
+		if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+			throw new IllegalArgumentException(String.format("Value %s is out of range for type short", value));
+		}
+
+		return (short) value;
+	}
+
+	protected byte toByte(final PyObject pyObject) {
+		final long value = toLong(pyObject);
+
+		if (value < Byte.MIN_VALUE || value > Byte.MAX_VALUE) {
+			throw new IllegalArgumentException(String.format("Value %s is out of range for type byte", value));
+		}
+
+		return (byte) value;
+	}
+
+	protected double toDouble(final PyObject pyObject) {
+		if (pyObject instanceof PyFloat) {
+			return ((PyFloat) pyObject).getValue();
+		}
+
+		return toLong(pyObject);
+	}
+
+	protected boolean toBoolean(final PyObject pyObject) {
+		return toLong(pyObject) != 0;
+	}
+
+	protected char toChar(final PyObject pyObject) {
+		final String value = toString(pyObject);
+
+		if (value.length() != 1) {
+			throw new IllegalArgumentException(String.format("Cannot convert string '%s' to char", value));
+		}
+
+		return value.charAt(0);
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	protected Object toEnum(final PyObject pyObject, final Class<?> enumType) {
+		return Enum.valueOf((Class<? extends Enum>) enumType, toString(pyObject));
+	}
+
+	/**
+	 * Converts a python list into an array. Primitive component types are filled
+	 * directly without boxing.
+	 */
+	protected Object toArray(final PyObject pyObject, final Type componentType) {
+		final PySequenceList list = toList(pyObject);
+		final int size = list.size();
+		final Class<?> rawComponentType = getRawType(componentType);
+
+		if (rawComponentType == int.class) {
+			final int[] values = new int[size];
+			for (int i = 0; i < size; i++) {
+				values[i] = toInt(list.pyget(i));
+			}
+			return values;
+		} else if (rawComponentType == long.class) {
+			final long[] values = new long[size];
+			for (int i = 0; i < size; i++) {
+				values[i] = toLong(list.pyget(i));
+			}
+			return values;
+		} else if (rawComponentType == double.class) {
+			final double[] values = new double[size];
+			for (int i = 0; i < size; i++) {
+				values[i] = toDouble(list.pyget(i));
+			}
+			return values;
+		} else if (rawComponentType == boolean.class) {
+			final boolean[] values = new boolean[size];
+			for (int i = 0; i < size; i++) {
+				values[i] = toBoolean(list.pyget(i));
+			}
+			return values;
+		} else if (rawComponentType == float.class) {
+			final float[] values = new float[size];
+			for (int i = 0; i < size; i++) {
+				values[i] = (float) toDouble(list.pyget(i));
+			}
+			return values;
+		} else if (rawComponentType == short.class) {
+			final short[] values = new short[size];
+			for (int i = 0; i < size; i++) {
+				values[i] = toShort(list.pyget(i));
+			}
+			return values;
+		} else if (rawComponentType == byte.class) {
+			final byte[] values = new byte[size];
+			for (int i = 0; i < size; i++) {
+				values[i] = toByte(list.pyget(i));
+			}
+			return values;
+		} else if (rawComponentType == char.class) {
+			final char[] values = new char[size];
+			for (int i = 0; i < size; i++) {
+				values[i] = toChar(list.pyget(i));
+			}
+			return values;
+		}
+
+		final Object values = Array.newInstance(rawComponentType, size);
+		final ObjectSchema componentSchema = getElementSchema(componentType);
+
+		for (int i = 0; i < size; i++) {
+			Array.set(values, i, convertElement(list.pyget(i), componentType, componentSchema));
+		}
+
+		return values;
+	}
+
+	protected Collection<Object> toCollection(final PyObject pyObject, final Class<?> type, final Type elementType) {
+		final PySequenceList list = toList(pyObject);
+		final int size = list.size();
+		final Collection<Object> values = createCollection(type, size);
+		final ObjectSchema elementSchema = getElementSchema(elementType);
+
+		for (int i = 0; i < size; i++) {
+			values.add(convertElement(list.pyget(i), elementType, elementSchema));
+		}
+
+		return values;
+	}
+
+	protected Map<Object, Object> toMap(final PyObject pyObject, final Class<?> type, final Type keyType,
+			final Type valueType) {
+
+		final AbstractDict dict = toDict(pyObject);
+		final Map<Object, Object> values = createMap(type);
+
+		if (dict instanceof PyStringMap) {
+			for (final Map.Entry<Object, PyObject> entry : ((PyStringMap) dict).getMap().entrySet()) {
+				final PyObject key = entry.getKey() instanceof PyObject ? (PyObject) entry.getKey()
+						: Py.newString(entry.getKey().toString());
+
+				values.put(convert(key, keyType), convert(entry.getValue(), valueType));
+			}
+		} else {
+			for (final Map.Entry<PyObject, PyObject> entry : ((PyDictionary) dict).getMap().entrySet()) {
+				values.put(convert(entry.getKey(), keyType), convert(entry.getValue(), valueType));
+			}
+		}
+
+		return values;
+	}
+
+	/**
+	 * Converts an element of a python list. If the elements are converted into
+	 * POJOs, the schema resolved once for the whole list is used.
+	 */
+	protected Object convertElement(final PyObject pyObject, final Type elementType,
+			final ObjectSchema elementSchema) {
+
+		if (elementSchema == null) {
+			return convert(pyObject, elementType);
+		}
+
+		return pyObject == null || pyObject == Py.None ? null : toObject(pyObject, elementSchema);
+	}
+
+	/**
+	 * Returns the schema of the given element type, or null if the elements are
+	 * not converted into POJOs.
+	 */
+	protected ObjectSchema getElementSchema(final Type elementType) {
+		final Class<?> rawType = getRawType(elementType);
+
+		if (rawType.isPrimitive() || VALUE_TYPES.contains(rawType) || rawType.isEnum() || rawType.isArray()
+				|| Collection.class.isAssignableFrom(rawType) || Map.class.isAssignableFrom(rawType)) {
+
+			return null;
+		}
+
+		return getSchema(rawType);
+	}
+
+	protected ObjectSchema getSchema(final Class<?> type) {
+		final ObjectSchema schema = schemas.get(type);
+
+		return schema != null ? schema : schemas.computeIfAbsent(type, ObjectSchema::new);
+	}
+
+	protected Object toObject(final PyObject pyObject, final Class<?> type) {
+		return toObject(pyObject, getSchema(type));
+	}
+
+	/**
+	 * Converts a python dict or object into a POJO. The dict keys are matched to
+	 * the field names, unknown keys are ignored.
+	 */
+	protected Object toObject(final PyObject pyObject, final ObjectSchema schema) {
+		final AbstractDict dict = toDict(pyObject);
+		final Object instance = schema.newInstance();
+
+		if (dict instanceof PyStringMap) {
+			for (final Map.Entry<Object, PyObject> entry : ((PyStringMap) dict).getMap().entrySet()) {
+				final String name = entry.getKey() instanceof PyObject ? toString((PyObject) entry.getKey())
+						: entry.getKey().toString();
+
+				setField(instance, schema.fields.get(name), entry.getValue());
+			}
+		} else {
+			for (final Map.Entry<PyObject, PyObject> entry : ((PyDictionary) dict).getMap().entrySet()) {
+				setField(instance, schema.fields.get(toString(entry.getKey())), entry.getValue());
+			}
+		}
+
+		return instance;
+	}
+
+	protected void setField(final Object instance, final Field field, final PyObject value) {
+		if (field == null) {
+			return;
+		}
+
+		try {
+			field.set(instance, convert(value, field.getGenericType()));
+		} catch (final IllegalAccessException e) {
+			throw new IllegalStateException(String.format("Could not set field %s of type %s", field.getName(),
+					instance.getClass().getName()), e);
+		}
+	}
+
+	protected PySequenceList toList(final PyObject pyObject) {
+		if (!(pyObject instanceof PySequenceList)) {
+			throw new IllegalArgumentException(
+					String.format("Expected a list or tuple but got %s", pyObject.getType().fastGetName()));
+		}
+
+		return (PySequenceList) pyObject;
+	}
+
+	/**
+	 * Returns the given dict or - for python objects - their attributes.
+	 */
+	protected AbstractDict toDict(final PyObject pyObject) {
+		if (pyObject instanceof PyDictionary || pyObject instanceof PyStringMap) {
+			return (AbstractDict) pyObject;
+		}
+
+		final PyObject dict = pyObject.fastGetDict();
+
+		if (dict instanceof PyDictionary || dict instanceof PyStringMap) {
+			return (AbstractDict) dict;
+		}
+
+		throw new IllegalArgumentException(
+				String.format("Expected a dict or object but got %s", pyObject.getType().fastGetName()));
+	}
+
+	/**
+	 * Creates an empty collection of the given type. For interfaces and abstract
+	 * classes a matching default implementation is used.
+	 */
+	@SuppressWarnings("unchecked")
+	protected Collection<Object> createCollection(final Class<?> type, final int size) {
+		final Collection<Object> values;
+
+		if (isInstantiable(type)) {
+			values = (Collection<Object>) newInstance(type);
+		} else if (SortedSet.class.isAssignableFrom(type)) {
+			values = new TreeSet<>();
+		} else if (Set.class.isAssignableFrom(type)) {
+			values = new LinkedHashSet<>(size);
+		} else if (BlockingQueue.class.isAssignableFrom(type)) {
+			values = new LinkedBlockingDeque<>();
+		} else if (Queue.class.isAssignableFrom(type)) {
+			values = new ArrayDeque<>(size);
+		} else {
+			values = new ArrayList<>(size);
+		}
+
+		if (!type.isInstance(values)) {
+			throw new IllegalArgumentException(String.format("Could not instantiate type %s", type.getName()));
+		}
+
+		return values;
+	}
+
+	/**
+	 * Creates an empty map of the given type. For interfaces and abstract classes
+	 * a matching default implementation is used.
+	 */
+	@SuppressWarnings("unchecked")
+	protected Map<Object, Object> createMap(final Class<?> type) {
+		final Map<Object, Object> values;
+
+		if (isInstantiable(type)) {
+			values = (Map<Object, Object>) newInstance(type);
+		} else if (ConcurrentNavigableMap.class.isAssignableFrom(type)) {
+			values = new ConcurrentSkipListMap<>();
+		} else if (ConcurrentMap.class.isAssignableFrom(type)) {
+			values = new ConcurrentHashMap<>();
+		} else if (SortedMap.class.isAssignableFrom(type)) {
+			values = new TreeMap<>();
+		} else {
+			values = new LinkedHashMap<>();
+		}
+
+		if (!type.isInstance(values)) {
+			throw new IllegalArgumentException(String.format("Could not instantiate type %s", type.getName()));
+		}
+
+		return values;
+	}
+
+	protected boolean isInstantiable(final Class<?> type) {
+		return !type.isInterface() && !Modifier.isAbstract(type.getModifiers());
+	}
+
+	protected Object newInstance(final Class<?> type) {
+		try {
+			return type.getConstructor().newInstance();
+		} catch (InstantiationException | IllegalAccessException | InvocationTargetException
+				| NoSuchMethodException e) {
+			throw new IllegalArgumentException(String.format("Could not instantiate type %s", type.getName()), e);
+		}
+	}
+
+	protected Class<?> getRawType(final Type type) {
+		if (type instanceof Class) {
+			return (Class<?>) type;
+		} else if (type instanceof ParameterizedType) {
+			return getRawType(((ParameterizedType) type).getRawType());
+		} else if (type instanceof GenericArrayType) {
+			return Array.newInstance(getRawType(((GenericArrayType) type).getGenericComponentType()), 0).getClass();
+		} else if (type instanceof WildcardType) {
+			return getRawType(((WildcardType) type).getUpperBounds()[0]);
+		} else {
+			return Object.class;
+		}
+	}
+
+	protected Type getComponentType(final Type arrayType) {
+		if (arrayType instanceof GenericArrayType) {
+			return ((GenericArrayType) arrayType).getGenericComponentType();
+		}
+
+		return getRawType(arrayType).getComponentType();
+	}
+
+	protected Type getTypeArgument(final Type type, final int index) {
+		if (type instanceof ParameterizedType) {
+			final Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+
+			if (index < arguments.length) {
+				return arguments[index];
+			}
+		}
+
+		return Object.class;
+	}
+
+	/**
+	 * Holds the constructor and the settable fields of a converted java type.
+	 */
+	protected static class ObjectSchema {
+		protected final Class<?> type;
+		protected final Constructor<?> constructor;
+		protected final Map<String, Field> fields = new HashMap<>();
+
+		protected ObjectSchema(final Class<?> type) {
+			this.type = type;
+
+			try {
+				this.constructor = type.getDeclaredConstructor();
+				this.constructor.setAccessible(true);
+			} catch (final NoSuchMethodException e) {
+				throw new IllegalArgumentException(
+						String.format("Type %s has no default constructor", type.getName()), e);
+			}
+
+			for (Class<?> current = type; current != null && current != Object.class; current = current
+					.getSuperclass()) {
+
+				for (final Field field : current.getDeclaredFields()) {
+					final int modifiers = field.getModifiers();
+
+					if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers)
+							&& !fields.containsKey(field.getName())) {
+
+						field.setAccessible(true);
+						fields.put(field.getName(), field);
+					}
+				}
+			}
+		}
+
+		protected Object newInstance() {
+			try {
+				return constructor.newInstance();
+			} catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+				throw new IllegalStateException(String.format("Could not instantiate type %s", type.getName()), e);
+			}
+		}
+	}
+}
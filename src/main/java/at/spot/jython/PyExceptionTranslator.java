@@ -0,0 +1,244 @@
+package at.spot.jython;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.python.core.PyClass;
+import org.python.core.PyException;
+import org.python.core.PyObject;
+import org.python.core.PyType;
+
+/**
+ * Translates python exceptions raised by {@link PythonMethod}s into the java
+ * exceptions configured with {@link PythonExceptionMapping}. The mappings of a
+ * method and the resolved exception per python exception type are cached.
+ */
+public class PyExceptionTranslator {
+	protected static final PyExceptionTranslator INSTANCE = new PyExceptionTranslator();
+
+	protected final Map<Method, MethodMappings> mappings = new ConcurrentHashMap<>();
+
+	private PyExceptionTranslator() {
+	}
+
+	public static PyExceptionTranslator getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Returns the java exception the given python exception is mapped to for the
+	 * given method. If there is no mapping, the python exception itself is
+	 * returned.
+	 */
+	public Throwable translate(final Method method, final PyException pyException) {
+		final MethodMappings methodMappings = getMappings(method);
+
+		if (methodMappings.mappings.isEmpty()) {
+			return pyException;
+		}
+
+		final Optional<Function<PyException, Throwable>> factory = methodMappings.get(pyException.type);
+
+		return factory.isPresent() ? factory.get().apply(pyException) : pyException;
+	}
+
+	/**
+	 * Resolves and caches the {@link PythonExceptionMapping}s of the given method.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if a mapped checked exception is not declared by the method or
+	 *             a mapped exception has no suitable constructor
+	 */
+	public void validate(final Method method) {
+		getMappings(method);
+	}
+
+	protected MethodMappings getMappings(final Method method) {
+		final MethodMappings methodMappings = mappings.get(method);
+
+		return methodMappings != null ? methodMappings : mappings.computeIfAbsent(method, MethodMappings::new);
+	}
+
+	/**
+	 * Formats the message of the given python exception, eg. "ValueError: invalid
+	 * value".
+	 */
+	public static String getMessage(final PyException pyException) {
+		pyException.normalize();
+
+		final String typeName = getName(pyException.type);
+		final String value = pyException.value != null ? pyException.value.__str__().toString() : "";
+
+		return value.isEmpty() ? typeName : typeName + ": " + value;
+	}
+
+	/**
+	 * Returns the name of the given python type without the module name.
+	 */
+	protected static String getName(final PyObject type) {
+		return type instanceof PyType ? ((PyType) type).getName() : PyException.exceptionClassName(type);
+	}
+
+	/**
+	 * Returns the name of the given python type including the module name.
+	 */
+	protected static String getQualifiedName(final PyObject type) {
+		final PyObject module = type.__findattr__("__module__");
+		final String name = getName(type);
+
+		return module != null ? module.toString() + "." + name : name;
+	}
+
+	/**
+	 * Returns the given python type and all its super types, starting with the
+	 * most specific one.
+	 */
+	protected static PyObject[] getTypeHierarchy(final PyObject type) {
+		if (type instanceof PyType) {
+			return ((PyType) type).getMro().getArray();
+		} else if (type instanceof PyClass) {
+			final List<PyObject> hierarchy = new ArrayList<>();
+			addClassHierarchy((PyClass) type, hierarchy);
+
+			return hierarchy.toArray(new PyObject[hierarchy.size()]);
+		} else {
+			return new PyObject[] { type };
+		}
+	}
+
+	protected static void addClassHierarchy(final PyClass type, final List<PyObject> hierarchy) {
+		hierarchy.add(type);
+
+		for (final PyObject base : type.__bases__.getArray()) {
+			addClassHierarchy((PyClass) base, hierarchy);
+		}
+	}
+
+	/**
+	 * Creates a function that instantiates the given java exception. The
+	 * constructors are tried in this order: (PyException), (String, Throwable),
+	 * (String), ().
+	 */
+	protected static Function<PyException, Throwable> createFactory(final Class<? extends Throwable> type) {
+		final Optional<Constructor<? extends Throwable>> pyExceptionConstructor = getConstructor(type,
+				PyException.class);
+
+		if (pyExceptionConstructor.isPresent()) {
+			return e -> newInstance(pyExceptionConstructor.get(), e);
+		}
+
+		final Optional<Constructor<? extends Throwable>> messageAndCauseConstructor = getConstructor(type,
+				String.class, Throwable.class);
+
+		if (messageAndCauseConstructor.isPresent()) {
+			return e -> newInstance(messageAndCauseConstructor.get(), getMessage(e), e);
+		}
+
+		final Optional<Constructor<? extends Throwable>> messageConstructor = getConstructor(type, String.class);
+
+		if (messageConstructor.isPresent()) {
+			return e -> newInstance(messageConstructor.get(), getMessage(e)).initCause(e);
+		}
+
+		final Optional<Constructor<? extends Throwable>> defaultConstructor = getConstructor(type);
+
+		if (defaultConstructor.isPresent()) {
+			return e -> newInstance(defaultConstructor.get()).initCause(e);
+		}
+
+		throw new IllegalArgumentException(
+				String.format("Exception type %s has no suitable constructor", type.getName()));
+	}
+
+	protected static Optional<Constructor<? extends Throwable>> getConstructor(final Class<? extends Throwable> type,
+			final Class<?>... parameterTypes) {
+
+		try {
+			return Optional.of(type.getConstructor(parameterTypes));
+		} catch (final NoSuchMethodException e) {
+			return Optional.empty();
+		}
+	}
+
+	protected static Throwable newInstance(final Constructor<? extends Throwable> constructor, final Object... args) {
+		try {
+			return constructor.newInstance(args);
+		} catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+			throw new IllegalStateException(
+					String.format("Could not instantiate exception %s", constructor.getDeclaringClass().getName()), e);
+		}
+	}
+
+	/**
+	 * Holds the exception mappings of a single method.
+	 */
+	protected static class MethodMappings {
+		protected final Method method;
+		protected final List<Mapping> mappings = new ArrayList<>();
+		protected final Map<PyObject, Optional<Function<PyException, Throwable>>> factories = new ConcurrentHashMap<>();
+
+		protected MethodMappings(final Method method) {
+			this.method = method;
+
+			for (final PythonExceptionMapping mapping : method.getAnnotationsByType(PythonExceptionMapping.class)) {
+				if (!isUnchecked(mapping.javaType()) && Stream.of(method.getExceptionTypes())
+						.noneMatch(declaredType -> declaredType.isAssignableFrom(mapping.javaType()))) {
+
+					throw new IllegalArgumentException(String.format("Exception %s is not declared by method %s",
+							mapping.javaType().getName(), method));
+				}
+
+				mappings.add(new Mapping(mapping.pythonType(), createFactory(mapping.javaType())));
+			}
+		}
+
+		/**
+		 * Returns the exception factory for the given python exception type. The
+		 * most specific mapping in the python type hierarchy is used. The python
+		 * types are compared by identity, so no names have to be computed for cached
+		 * types.
+		 */
+		protected Optional<Function<PyException, Throwable>> get(final PyObject type) {
+			final Optional<Function<PyException, Throwable>> factory = factories.get(type);
+
+			return factory != null ? factory : factories.computeIfAbsent(type, this::resolve);
+		}
+
+		protected Optional<Function<PyException, Throwable>> resolve(final PyObject type) {
+			for (final PyObject superType : getTypeHierarchy(type)) {
+				final String name = getName(superType);
+				final String qualifiedName = getQualifiedName(superType);
+
+				for (final Mapping mapping : mappings) {
+					if (mapping.pythonType.equals(name) || mapping.pythonType.equals(qualifiedName)) {
+						return Optional.of(mapping.factory);
+					}
+				}
+			}
+
+			return Optional.empty();
+		}
+
+		protected boolean isUnchecked(final Class<? extends Throwable> type) {
+			return RuntimeException.class.isAssignableFrom(type) || Error.class.isAssignableFrom(type);
+		}
+	}
+
+	protected static class Mapping {
+		protected final String pythonType;
+		protected final Function<PyException, Throwable> factory;
+
+		protected Mapping(final String pythonType, final Function<PyException, Throwable> factory) {
+			this.pythonType = pythonType;
+			this.factory = factory;
+		}
+	}
+}
@@ -13,6 +13,7 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.python.core.Py;
+import org.python.core.PyException;
 import org.python.core.PyList;
 import org.python.core.PyObject;
 import org.python.core.PyString;
@@ -129,18 +130,41 @@ public class PyFactory {
 	}
 
 	/**
-	 * Creates a proxy ({@link JythonObjectProxy}) for a given python object.
+	 * Creates a proxy ({@link JythonObjectProxy}) for a given python object. The
+	 * {@link PythonExceptionMapping}s of the proxied methods are validated
+	 * beforehand.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the interface extends {@link AutoCloseable} and forwards
+	 *             close() to python, as this would never release the proxy
 	 */
 	@SuppressWarnings("unchecked")
 	protected <T> T wrapPythonObject(final PyObject pyObject, final Class<T> type)
 			throws InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException,
 			NoSuchMethodException, SecurityException {
 
+		for (final Method method : type.getMethods()) {
+			if (method.isAnnotationPresent(PythonMethod.class)) {
+				if (AutoCloseable.class.isAssignableFrom(type) && "close".equals(method.getName())
+						&& method.getParameterCount() == 0) {
+
+					throw new IllegalArgumentException(String.format(
+							"Method %s must not be annotated with @%s, it is used to release the proxy", method,
+							PythonMethod.class.getSimpleName()));
+				}
+
+				PyExceptionTranslator.getInstance().validate(method);
+			}
+		}
+
 		final Class<T> proxy = (Class<T>) new ByteBuddy() //
 				.subclass(JythonObjectProxy.class) //
 				.implement(type) //
 				.method(not(isStatic()).and(isAnnotatedWith(PythonMethod.class))) //
 				.intercept(MethodDelegation.to(MethodInterceptor.class)) //
+				.method(not(isStatic()).and(isAnnotatedWith(PythonMethod.class))
+						.and(isAnnotatedWith(BulkTransfer.class))) //
+				.intercept(MethodDelegation.to(BulkTransferMethodInterceptor.class)) //
 				.make().load(getClass().getClassLoader()).getLoaded();
 
 		final T instance = proxy.getConstructor(pyObject.getClass()).newInstance(pyObject);
@@ -150,14 +174,37 @@ public class PyFactory {
 
 	/**
 	 * Intercepts methods on the proxy that should be forwarded to the python
-	 * object.
+	 * object. Python exceptions are translated according to the
+	 * {@link PythonExceptionMapping}s of the method.
 	 */
 	protected static class MethodInterceptor {
 		@RuntimeType
 		public static Object intercept(@This final JythonObjectProxy instance, @Origin final Method method,
-				@AllArguments final Object... args) {
+				@AllArguments final Object... args) throws Throwable {
 
-			return instance.invokeMethod(method.getName(), args);
+			try {
+				return instance.invokeMethod(method.getName(), args);
+			} catch (final PyException e) {
+				throw PyExceptionTranslator.getInstance().translate(method, e);
+			}
+		}
+	}
+
+	/**
+	 * Intercepts methods on the proxy that are annotated with
+	 * {@link BulkTransfer}. The return value is converted into the generic return
+	 * type of the method.
+	 */
+	protected static class BulkTransferMethodInterceptor {
+		@RuntimeType
+		public static Object intercept(@This final JythonObjectProxy instance, @Origin final Method method,
+				@AllArguments final Object... args) throws Throwable {
+
+			try {
+				return instance.invokeBulkTransferMethod(method.getName(), method.getGenericReturnType(), args);
+			} catch (final PyException e) {
+				throw PyExceptionTranslator.getInstance().translate(method, e);
+			}
 		}
 	}
 
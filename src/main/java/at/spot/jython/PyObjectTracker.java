@@ -0,0 +1,173 @@
+package at.spot.jython;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.python.core.PyInstance;
+
+/**
+ * Keeps track of the python objects held by {@link JythonObjectProxy}
+ * instances.
+ *
+ * Proxies are released either explicitly using
+ * {@link JythonObjectProxy#close()} or, once they become unreachable, by a
+ * background cleaner thread. Releasing a proxy drops its reference to the
+ * python object, the memory of the python object (including the native memory
+ * of CPython objects loaded through JyNI) is then freed by the garbage
+ * collector. The tracker exposes a gauge for the number of live proxies. If
+ * leak detection is enabled, the allocation site of every proxy is recorded and
+ * reported in case the proxy has been garbage collected without being closed.
+ */
+public class PyObjectTracker {
+	public static final String LEAK_DETECTION_PROPERTY = "at.spot.jython.leakDetection";
+
+	protected static final PyObjectTracker INSTANCE = new PyObjectTracker();
+	protected static final Logger LOG = Logger.getLogger(PyObjectTracker.class.getName());
+
+	protected final ReferenceQueue<JythonObjectProxy> queue = new ReferenceQueue<>();
+	protected final Set<TrackedObject> trackedObjects = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+	protected final AtomicLong liveObjects = new AtomicLong();
+	protected final AtomicLong leakedObjects = new AtomicLong();
+
+	protected volatile boolean leakDetectionEnabled = Boolean.getBoolean(LEAK_DETECTION_PROPERTY);
+
+	private PyObjectTracker() {
+		final Thread cleaner = new Thread(this::processQueue, "jython-object-cleaner");
+		cleaner.setDaemon(true);
+		cleaner.start();
+	}
+
+	public static PyObjectTracker getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Starts tracking the given proxy.
+	 *
+	 * @param proxy
+	 *            the proxy that holds the python object
+	 * @param pyObject
+	 *            the python object wrapped by the proxy
+	 * @return the handle used to release the python object.
+	 */
+	protected TrackedObject track(final JythonObjectProxy proxy, final PyInstance pyObject) {
+		final Throwable allocationSite = leakDetectionEnabled ? new Throwable(
+				String.format("Proxy %s for python class %s allocated here", getProxiedInterfaceNames(proxy),
+						pyObject.instclass.__name__))
+				: null;
+
+		final TrackedObject trackedObject = new TrackedObject(proxy, queue, allocationSite);
+
+		trackedObjects.add(trackedObject);
+		liveObjects.incrementAndGet();
+
+		return trackedObject;
+	}
+
+	/**
+	 * Returns the names of the interfaces implemented by the given proxy.
+	 */
+	protected String getProxiedInterfaceNames(final JythonObjectProxy proxy) {
+		return Stream.of(proxy.getClass().getInterfaces()).map(Class::getName).collect(Collectors.joining(", "));
+	}
+
+	/**
+	 * Waits for unreachable proxies and releases their tracked objects.
+	 */
+	protected void processQueue() {
+		while (true) {
+			try {
+				final TrackedObject trackedObject = (TrackedObject) queue.remove();
+
+				if (trackedObject.release() && trackedObject.allocationSite != null) {
+					leakedObjects.incrementAndGet();
+					LOG.log(Level.WARNING, "Python object proxy has been garbage collected without being closed",
+							trackedObject.allocationSite);
+				}
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (final RuntimeException e) {
+				LOG.log(Level.WARNING, "Could not release python object", e);
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of proxies that have neither been closed nor garbage
+	 * collected.
+	 */
+	public long getLiveObjectCount() {
+		return liveObjects.get();
+	}
+
+	/**
+	 * Returns the number of proxies that have been garbage collected without
+	 * being closed. Only counted while leak detection is enabled.
+	 */
+	public long getLeakedObjectCount() {
+		return leakedObjects.get();
+	}
+
+	public boolean isLeakDetectionEnabled() {
+		return leakDetectionEnabled;
+	}
+
+	/**
+	 * Enables the leak detection for all proxies created afterwards. This can
+	 * also be done by setting the system property
+	 * {@value #LEAK_DETECTION_PROPERTY} to true. As the allocation stack trace is
+	 * recorded for every proxy, this should not be used in production.
+	 */
+	public void setLeakDetectionEnabled(final boolean leakDetectionEnabled) {
+		this.leakDetectionEnabled = leakDetectionEnabled;
+	}
+
+	/**
+	 * The tracking handle of a single proxy. It must not reference the proxy
+	 * itself, otherwise the proxy would never become unreachable.
+	 */
+	protected class TrackedObject extends PhantomReference<JythonObjectProxy> {
+		protected final Throwable allocationSite;
+		protected final AtomicBoolean released = new AtomicBoolean();
+
+		protected TrackedObject(final JythonObjectProxy proxy, final ReferenceQueue<JythonObjectProxy> queue,
+				final Throwable allocationSite) {
+
+			super(proxy, queue);
+			this.allocationSite = allocationSite;
+		}
+
+		public boolean isReleased() {
+			return released.get();
+		}
+
+		/**
+		 * Stops tracking the object and updates the gauges. This only has an effect
+		 * the first time it is called.
+		 *
+		 * @return true if the object has been released by this call
+		 */
+		protected boolean release() {
+			if (!released.compareAndSet(false, true)) {
+				return false;
+			}
+
+			clear();
+			trackedObjects.remove(this);
+			liveObjects.decrementAndGet();
+
+			return true;
+		}
+	}
+}
@@ -0,0 +1,44 @@
+package at.spot.jython;
+
+import org.python.core.PyException;
+
+/**
+ * A checked java exception that is thrown instead of a python exception (see
+ * {@link PythonExceptionMapping}).
+ *
+ * The message is only formatted when it is requested. This exception has no
+ * stack trace of its own, the java stack trace is only captured by the python
+ * exception (the cause). Jython does this unless the registry option
+ * python.options.includeJavaStackInExceptions is set to false.
+ */
+public class PythonException extends Exception {
+	private static final long serialVersionUID = 1L;
+
+	protected final transient PyException pyException;
+	protected transient String message;
+
+	public PythonException(final PyException pyException) {
+		super(null, pyException, false, false);
+		this.pyException = pyException;
+	}
+
+	@Override
+	public String getMessage() {
+		if (message == null) {
+			message = PyExceptionTranslator.getMessage(pyException);
+		}
+
+		return message;
+	}
+
+	/**
+	 * Returns the formatted python traceback.
+	 */
+	public String getPythonTraceback() {
+		return pyException.toString();
+	}
+
+	public PyException getPyException() {
+		return pyException;
+	}
+}
@@ -0,0 +1,32 @@
+package at.spot.jython;
+
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * Maps a python exception type raised by a {@link PythonMethod} to a java
+ * exception. Python exceptions without a mapping are thrown as they are.
+ *
+ * Checked exceptions have to be declared by the method. Subclasses of
+ * {@link PythonException} and {@link PythonRuntimeException} are the cheapest
+ * to create, as they don't capture a stack trace of their own and their
+ * message is only formatted when needed.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Repeatable(PythonExceptionMappings.class)
+public @interface PythonExceptionMapping {
+
+	/**
+	 * The name of the python exception type, either the simple name (e.g.
+	 * "ValueError") or qualified with the module name (e.g.
+	 * "validation.ValidationError"). Subtypes of the python exception type are
+	 * mapped too.
+	 */
+	String pythonType();
+
+	/**
+	 * The java exception thrown instead of the python exception.
+	 */
+	Class<? extends Throwable> javaType();
+}
@@ -0,0 +1,12 @@
+package at.spot.jython;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * Container of multiple {@link PythonExceptionMapping}s.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PythonExceptionMappings {
+	PythonExceptionMapping[] value();
+}
@@ -0,0 +1,14 @@
+package at.spot.jython.testing;
+
+import at.spot.jython.PythonClass;
+import at.spot.jython.PythonMethod;
+
+@PythonClass(moduleName = "Car", className = "Car")
+public interface CloseableCar extends AutoCloseable {
+
+	@PythonMethod
+	String getNumberPlate();
+
+	@Override
+	void close();
+}
@@ -0,0 +1,46 @@
+package at.spot.jython.testing;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.concurrent.ConcurrentMap;
+
+import at.spot.jython.BulkTransfer;
+import at.spot.jython.PythonClass;
+import at.spot.jython.PythonMethod;
+
+@PythonClass(moduleName = "Report", className = "Report")
+public interface Report {
+
+	@PythonMethod
+	@BulkTransfer
+	List<ReportRow> getRows(int count);
+
+	@PythonMethod
+	@BulkTransfer
+	double[] getValues(int count);
+
+	@PythonMethod
+	@BulkTransfer
+	Map<String, Object> getSummary();
+
+	@PythonMethod
+	@BulkTransfer
+	float[] getFloatValues(int count);
+
+	@PythonMethod
+	@BulkTransfer
+	byte[] getBytes();
+
+	@PythonMethod
+	@BulkTransfer
+	int getTotal();
+
+	@PythonMethod
+	@BulkTransfer
+	SortedSet<String> getTags();
+
+	@PythonMethod
+	@BulkTransfer
+	ConcurrentMap<String, Integer> getCounts();
+}
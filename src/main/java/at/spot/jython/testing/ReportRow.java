@@ -0,0 +1,20 @@
+package at.spot.jython.testing;
+
+public class ReportRow {
+
+	private int id;
+	private String name;
+	private double value;
+
+	public int getId() {
+		return id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public double getValue() {
+		return value;
+	}
+}
@@ -0,0 +1,13 @@
+package at.spot.jython.testing;
+
+import org.python.core.PyException;
+
+import at.spot.jython.PythonException;
+
+public class ValidationException extends PythonException {
+	private static final long serialVersionUID = 1L;
+
+	public ValidationException(final PyException pyException) {
+		super(pyException);
+	}
+}
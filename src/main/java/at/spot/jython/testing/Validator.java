@@ -0,0 +1,17 @@
+package at.spot.jython.testing;
+
+import at.spot.jython.PythonClass;
+import at.spot.jython.PythonExceptionMapping;
+import at.spot.jython.PythonMethod;
+
+@PythonClass(moduleName = "Validator", className = "Validator")
+public interface Validator {
+
+	@PythonMethod
+	@PythonExceptionMapping(pythonType = "ValueError", javaType = ValidationException.class)
+	@PythonExceptionMapping(pythonType = "KeyError", javaType = IllegalArgumentException.class)
+	void validate(String value) throws ValidationException;
+
+	@PythonMethod
+	int parse(String value);
+}
@@ -1,11 +1,28 @@
 package at.spot.jython;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+
 import org.junit.Assert;
 import org.junit.Test;
+import org.python.core.PyException;
 
 import at.spot.jython.testing.Building;
 import at.spot.jython.testing.CPythonExample;
 import at.spot.jython.testing.Car;
+import at.spot.jython.testing.CloseableCar;
+import at.spot.jython.testing.Report;
+import at.spot.jython.testing.ReportRow;
+import at.spot.jython.testing.ValidationException;
+import at.spot.jython.testing.Validator;
 
 public class PyFactoryTest {
 
@@ -43,10 +60,233 @@ public class PyFactoryTest {
 		Assert.assertNull(car.getNumberPlate());
 	}
 
+	@Test
+	public void testCloseProxyInstance() {
+		final Car car = PyFactory.getInstance().createProxyInstance(Car.class, "test plate");
+
+		try (JythonObjectProxy proxy = (JythonObjectProxy) car) {
+			Assert.assertFalse(proxy.isClosed());
+			Assert.assertFalse(proxy.trackedObject.isReleased());
+		}
+
+		Assert.assertTrue(((JythonObjectProxy) car).isClosed());
+		Assert.assertTrue(((JythonObjectProxy) car).trackedObject.isReleased());
+	}
+
+	@Test
+	public void testLeakedProxyInstance() throws InterruptedException {
+		final PyObjectTracker tracker = PyObjectTracker.getInstance();
+		final List<LogRecord> records = new CopyOnWriteArrayList<>();
+		final Handler handler = new Handler() {
+			@Override
+			public void publish(final LogRecord record) {
+				records.add(record);
+			}
+
+			@Override
+			public void flush() {
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+
+		PyObjectTracker.LOG.addHandler(handler);
+		tracker.setLeakDetectionEnabled(true);
+
+		try {
+			final long leakedObjects = tracker.getLeakedObjectCount();
+			final PyObjectTracker.TrackedObject trackedObject = createLeakedProxyInstance();
+
+			for (int i = 0; i < 100 && (!trackedObject.isReleased()
+					|| records.stream().noneMatch(r -> r.getThrown() == trackedObject.allocationSite)); i++) {
+
+				System.gc();
+				Thread.sleep(100);
+			}
+
+			Assert.assertTrue(trackedObject.isReleased());
+			Assert.assertTrue(tracker.getLeakedObjectCount() > leakedObjects);
+			Assert.assertTrue(records.stream().anyMatch(r -> r.getThrown() == trackedObject.allocationSite));
+			Assert.assertEquals("Proxy at.spot.jython.testing.Car for python class Car allocated here",
+					trackedObject.allocationSite.getMessage());
+		} finally {
+			tracker.setLeakDetectionEnabled(false);
+			PyObjectTracker.LOG.removeHandler(handler);
+		}
+	}
+
+	/**
+	 * Creates a proxy that is not referenced anymore and returns its tracking
+	 * handle.
+	 */
+	protected PyObjectTracker.TrackedObject createLeakedProxyInstance() {
+		final Car car = PyFactory.getInstance().createProxyInstance(Car.class, "test plate");
+
+		return ((JythonObjectProxy) car).trackedObject;
+	}
+
+	@Test
+	public void testCloseableProxyInstance() {
+		final CloseableCar closedCar;
+
+		try (CloseableCar car = PyFactory.getInstance().createProxyInstance(CloseableCar.class, "test plate")) {
+			Assert.assertEquals("test plate", car.getNumberPlate());
+			closedCar = car;
+		}
+
+		Assert.assertTrue(((JythonObjectProxy) closedCar).isClosed());
+		Assert.assertTrue(((JythonObjectProxy) closedCar).trackedObject.isReleased());
+	}
+
+	@Test
+	public void testCloseForwardedToPython() {
+		try {
+			PyFactory.getInstance().createProxyInstance(InvalidCloseableCar.class);
+			Assert.fail();
+		} catch (final IllegalStateException e) {
+			Assert.assertTrue(e.getCause() instanceof IllegalArgumentException);
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testInvokeClosedProxyInstance() {
+		final Car car = PyFactory.getInstance().createProxyInstance(Car.class, "test plate");
+
+		((JythonObjectProxy) car).close();
+		car.getNumberPlate();
+	}
+
+	@Test
+	public void testBulkTransferIntoObjects() {
+		final Report report = PyFactory.getInstance().createProxyInstance(Report.class);
+		final List<ReportRow> rows = report.getRows(10000);
+
+		Assert.assertEquals(10000, rows.size());
+		Assert.assertEquals(9999, rows.get(9999).getId());
+		Assert.assertEquals("row 9999", rows.get(9999).getName());
+		Assert.assertEquals(4999.5, rows.get(9999).getValue(), 0);
+	}
+
+	@Test
+	public void testBulkTransferIntoPrimitiveColumn() {
+		final Report report = PyFactory.getInstance().createProxyInstance(Report.class);
+
+		Assert.assertArrayEquals(new double[] { 0, 0.5, 1 }, report.getValues(3), 0);
+	}
+
+	@Test
+	public void testBulkTransferIntoNarrowPrimitiveColumns() {
+		final Report report = PyFactory.getInstance().createProxyInstance(Report.class);
+
+		Assert.assertArrayEquals(new float[] { 0, 0.5f, 1 }, report.getFloatValues(3), 0);
+		Assert.assertArrayEquals(new byte[] { 1, -2, 127 }, report.getBytes());
+	}
+
+	@Test
+	public void testBulkTransferIntoMap() {
+		final Report report = PyFactory.getInstance().createProxyInstance(Report.class);
+		final Map<String, Object> summary = report.getSummary();
+
+		Assert.assertEquals("report", summary.get("name"));
+		Assert.assertEquals(3, summary.get("count"));
+		Assert.assertEquals(Arrays.asList("a", "b"), summary.get("tags"));
+	}
+
+	@Test
+	public void testBulkTransferIntoSortedSet() {
+		final Report report = PyFactory.getInstance().createProxyInstance(Report.class);
+		final SortedSet<String> tags = report.getTags();
+
+		Assert.assertTrue(tags instanceof TreeSet);
+		Assert.assertEquals(Arrays.asList("a", "b", "c"), new ArrayList<>(tags));
+	}
+
+	@Test
+	public void testBulkTransferIntoConcurrentMap() {
+		final Report report = PyFactory.getInstance().createProxyInstance(Report.class);
+		final ConcurrentMap<String, Integer> counts = report.getCounts();
+
+		Assert.assertEquals(Integer.valueOf(1), counts.get("a"));
+		Assert.assertEquals(Integer.valueOf(2), counts.get("b"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBulkTransferOutOfRange() {
+		PyFactory.getInstance().createProxyInstance(Report.class).getTotal();
+	}
+
+	@Test
+	public void testPythonExceptionMapping() throws ValidationException {
+		final Validator validator = PyFactory.getInstance().createProxyInstance(Validator.class);
+
+		validator.validate("1");
+
+		try {
+			validator.validate("abc");
+			Assert.fail();
+		} catch (final ValidationException e) {
+			Assert.assertEquals("ValueError: abc is not a number", e.getMessage());
+			Assert.assertTrue(e.getPythonTraceback().contains("Traceback"));
+			Assert.assertEquals(0, e.getStackTrace().length);
+			Assert.assertSame(e.getPyException(), e.getCause());
+		}
+
+		try {
+			validator.validate("");
+			Assert.fail();
+		} catch (final ValidationException e) {
+			Assert.assertEquals("EmptyValueError: value is empty", e.getMessage());
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testPythonExceptionMappingToUncheckedException() throws ValidationException {
+		PyFactory.getInstance().createProxyInstance(Validator.class).validate("unknown");
+	}
+
+	@Test
+	public void testInvalidPythonExceptionMapping() {
+		try {
+			PyFactory.getInstance().createProxyInstance(InvalidValidator.class);
+			Assert.fail();
+		} catch (final IllegalStateException e) {
+			Assert.assertTrue(e.getCause() instanceof IllegalArgumentException);
+		}
+	}
+
+	@Test(expected = PyException.class)
+	public void testPythonExceptionWithoutMapping() {
+		PyFactory.getInstance().createProxyInstance(Validator.class).parse("abc");
+	}
+
 	@Test
 	public void testCPythonModule() {
 		final CPythonExample cPython = PyFactory.getInstance().createProxyInstance(CPythonExample.class);
 
 		Assert.assertNotNull(cPython.getResponse());
 	}
+
+	/**
+	 * Forwards close() to python instead of releasing the proxy.
+	 */
+	@PythonClass(moduleName = "Car", className = "Car")
+	public interface InvalidCloseableCar extends AutoCloseable {
+
+		@Override
+		@PythonMethod
+		void close();
+	}
+
+	/**
+	 * Maps to a checked exception that is not declared by the method.
+	 */
+	@PythonClass(moduleName = "Validator", className = "Validator")
+	public interface InvalidValidator {
+
+		@PythonMethod
+		@PythonExceptionMapping(pythonType = "ValueError", javaType = ValidationException.class)
+		void validate(String value);
+	}
 }
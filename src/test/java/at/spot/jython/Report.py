@@ -0,0 +1,25 @@
+class Report():
+
+	def getRows(self, count):
+		return [{'id': i, 'name': u'row %s' % i, 'value': i * 0.5, 'unused': None} for i in range(count)]
+
+	def getValues(self, count):
+		return [i * 0.5 for i in range(count)]
+
+	def getFloatValues(self, count):
+		return self.getValues(count)
+
+	def getBytes(self):
+		return [1, -2, 127]
+
+	def getSummary(self):
+		return {'name': 'report', 'count': 3, 'tags': ('a', 'b')}
+
+	def getTotal(self):
+		return 2 ** 40
+
+	def getTags(self):
+		return ['b', 'c', 'a', 'b']
+
+	def getCounts(self):
+		return {'a': 1, 'b': 2}
@@ -0,0 +1,15 @@
+class EmptyValueError(ValueError):
+	pass
+
+class Validator():
+
+	def validate(self, value):
+		if not value:
+			raise EmptyValueError("value is empty")
+		if value == "unknown":
+			raise KeyError(value)
+		if not value.isdigit():
+			raise ValueError("%s is not a number" % value)
+
+	def parse(self, value):
+		return int(value)